@@ -76,7 +76,7 @@ public class Competition extends JFrame {
                         // Compete against the standard strategies
                         List<Agent> competitors = new ArrayList<>();
                         // Add some others for them to compete against
-                        competitors.add(new SimpleAgent<>("Neural Agent", 6, bestStrategy));
+                        competitors.add(new SimpleAgent<>("Neural Agent", bestStrategy.getHistoryLength(), bestStrategy));
                         competitors.add(new SimpleAgent<>("Always Cooperate", 0, alwaysCooperate));
                         competitors.add(new SimpleAgent<>("Always Defect", 0, alwaysDefect));
                         competitors.add(new SimpleAgent<>("Random1", 0, random));
@@ -114,9 +114,9 @@ public class Competition extends JFrame {
         // Make some neural agents
         List<SimpleAgent<NeuralStrategy>> neuralAgents = new ArrayList<>();
         for (int i = 0; i < 20; i++) {
-            NeuralStrategy s = new NeuralStrategy(7, 4);
+            NeuralStrategy s = new NeuralStrategy(NeuralStrategy.DEFAULT_INPUT_NODES, NeuralStrategy.DEFAULT_HIDDEN_NODES);
             s.randomize();
-            neuralAgents.add(new SimpleAgent<>("N" + agentNumber++, 6, s));
+            neuralAgents.add(new SimpleAgent<>("N" + agentNumber++, s.getHistoryLength(), s));
         }
 
         for (int generation = 0; generation < 500000; generation++) {
@@ -159,7 +159,7 @@ public class Competition extends JFrame {
             while (neuralAgents.size() < 20) {
                 NeuralStrategy s = priorPopulation.get(index).getStrategy().clone();
                 s.mutate(2F + 8F * Math.max(0F, 0.002F * (500 - generation)));
-                neuralAgents.add(new SimpleAgent<>("N" + agentNumber++, 6, s));
+                neuralAgents.add(new SimpleAgent<>("N" + agentNumber++, s.getHistoryLength(), s));
                 // Use the most successful 5 neural strategies to seed the next generation
                 index = (index + 1 % 8);
             }
@@ -170,8 +170,8 @@ public class Competition extends JFrame {
         System.out.println(neuralAgents.get(0).getStrategy());
         // compete the first 2 players against the manual versions
         List<Agent> agents = new ArrayList<>();
-        agents.add(new SimpleAgent<NeuralStrategy>("Neural 1", 6, neuralAgents.get(0).getStrategy()));
-        agents.add(new SimpleAgent<NeuralStrategy>("Neural 2", 6, neuralAgents.get(1).getStrategy()));
+        agents.add(new SimpleAgent<NeuralStrategy>("Neural 1", neuralAgents.get(0).getStrategy().getHistoryLength(), neuralAgents.get(0).getStrategy()));
+        agents.add(new SimpleAgent<NeuralStrategy>("Neural 2", neuralAgents.get(1).getStrategy().getHistoryLength(), neuralAgents.get(1).getStrategy()));
         agents.add(new SimpleAgent<>("Tit for tat", 1, titForTat));
         agents.add(new SimpleAgent<>("Tit for two tat", 3, titForTwoTat));
         agents.add(new SimpleAgent<>("Always Defect", 0, alwaysDefect));
@@ -198,33 +198,7 @@ public class Competition extends JFrame {
     public int compete(Agent agent1, Agent agent2, int rounds, boolean log) throws InterruptedException {
         Game game1 = agent1.newGame();
         Game game2 = agent2.newGame();
-        // 500 rounds
-        boolean last1 = true;
-        boolean last2 = true;
-        for (int round = 0; round < rounds; round++) {
-            boolean cooperate1 = game1.play(last2);
-            boolean cooperate2 = game2.play(last1);
-            if (log) {
-                System.out.print((cooperate1 ? "1" : "0") + (cooperate2 ? "1" : "0") + " ");
-            }
-            if (cooperate1) {
-                if (cooperate2) {
-                    game1.acceptPayment(3);
-                    game2.acceptPayment(3);
-                } else {
-                    game2.acceptPayment(5);
-                }
-            } else {
-                if (cooperate2) {
-                    game1.acceptPayment(5);
-                }
-            }
-            last1 = cooperate1;
-            last2 = cooperate2;
-        }
-        if (log) {
-            System.out.println(game1 + "  vs  " + game2);
-        }
+        Match.play(game1, game2, rounds, log);
         if (sloMo) {
             Thread.sleep(100);
         }
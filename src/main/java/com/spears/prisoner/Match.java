@@ -0,0 +1,41 @@
+package com.spears.prisoner;
+
+public final class Match {
+    private Match() {
+    }
+
+    /**
+     * Play two games against each other and pay out each round. Both players are assumed to have cooperated before
+     * the first round.
+     * @param rounds number of rounds to play
+     * @param log    whether to print each round's plays and the final scores
+     */
+    public static void play(Game game1, Game game2, int rounds, boolean log) {
+        boolean last1 = true;
+        boolean last2 = true;
+        for (int round = 0; round < rounds; round++) {
+            boolean cooperate1 = game1.play(last2);
+            boolean cooperate2 = game2.play(last1);
+            if (log) {
+                System.out.print((cooperate1 ? "1" : "0") + (cooperate2 ? "1" : "0") + " ");
+            }
+            if (cooperate1) {
+                if (cooperate2) {
+                    game1.acceptPayment(3);
+                    game2.acceptPayment(3);
+                } else {
+                    game2.acceptPayment(5);
+                }
+            } else {
+                if (cooperate2) {
+                    game1.acceptPayment(5);
+                }
+            }
+            last1 = cooperate1;
+            last2 = cooperate2;
+        }
+        if (log) {
+            System.out.println(game1 + "  vs  " + game2);
+        }
+    }
+}
@@ -15,6 +15,15 @@ import java.util.function.BiPredicate;
 import javax.swing.JPanel;
 
 public class NeuralStrategy extends JPanel implements BiPredicate<Integer, boolean[]> {
+    /**
+     * Input nodes of the evolved strategies: the round number plus the last three moves of each player
+     */
+    public static final int DEFAULT_INPUT_NODES = 7;
+    /**
+     * Hidden nodes of the evolved strategies
+     */
+    public static final int DEFAULT_HIDDEN_NODES = 4;
+
     protected final int inputNodes;
     protected final int hiddenNodes;
 
@@ -48,6 +57,13 @@ public class NeuralStrategy extends JPanel implements BiPredicate<Integer, boole
         lastHistory = new boolean[inputNodes - 1];
     }
 
+    /**
+     * @return the number of historic plays the strategy expects; every input node except the round number
+     */
+    public int getHistoryLength() {
+        return inputNodes - 1;
+    }
+
     public void randomize() {
         for (int i = 0; i < wAndB.length; i++) {
             wAndB[i] = (float) (Math.random() * 10F - 5F);
@@ -293,4 +309,22 @@ public class NeuralStrategy extends JPanel implements BiPredicate<Integer, boole
         }
         writer.write('\n');
     }
+
+    /**
+     * Load the weights and biases from a line in the format produced by {@link #writeCSV(Writer)}
+     * @param line comma separated weights and biases, without the trailing newline
+     */
+    public void readCSV(String line) {
+        String[] values = line.trim().split(",");
+        if (values.length != wAndB.length) {
+            throw new IllegalArgumentException("Expected " + wAndB.length + " weights and biases but found " + values.length);
+        }
+        float[] parsed = new float[wAndB.length];
+        for (int i = 0; i < parsed.length; i++) {
+            parsed[i] = Float.parseFloat(values[i].trim());
+        }
+        synchronized (this) {
+            System.arraycopy(parsed, 0, wAndB, 0, wAndB.length);
+        }
+    }
 }
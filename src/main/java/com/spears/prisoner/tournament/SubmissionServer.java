@@ -0,0 +1,144 @@
+package com.spears.prisoner.tournament;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.spears.prisoner.genetic.NeuralStrategy;
+import com.spears.prisoner.simple.SimpleAgent;
+
+/**
+ * Accepts {@link NeuralStrategy} submissions over a loopback socket and feeds them to a {@link TournamentService}.
+ * <p>
+ * Each line is one submission: a name, a comma, then the weights and biases as written by
+ * {@link NeuralStrategy#writeCSV(java.io.Writer)}. The server replies "OK" with the name it was given, or "ERROR"
+ * with a reason. Submissions are queued with {@link TournamentService#submit(String, com.spears.prisoner.Agent)}, so
+ * a client that sends faster than the tournament can play is held back by the socket.
+ * <p>
+ * "OK" means the submission was queued, not that it will be played: if the tournament is closed first, queued
+ * submissions are dropped and listed by {@link TournamentService#shutdown()}.
+ * <p>
+ * At most {@code maxConnections} clients are served at once. Further clients wait in the socket backlog until a
+ * connection closes.
+ */
+public class SubmissionServer implements AutoCloseable {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        try (TournamentService tournament = new TournamentService(Runtime.getRuntime().availableProcessors(), 64, 500,
+                leaderboard -> {
+                    System.out.println("Leaderboard (" + leaderboard.size() + " agents)");
+                    for (int i = 0; i < Math.min(10, leaderboard.size()); i++) {
+                        System.out.println("  " + leaderboard.get(i));
+                    }
+                });
+             SubmissionServer server = new SubmissionServer(port, 16, tournament)) {
+            server.run();
+        }
+    }
+
+    private final ServerSocket serverSocket;
+    private final TournamentService tournament;
+    private final AtomicInteger submissionNumber = new AtomicInteger();
+    private final Semaphore connectionSlots;
+    private final ExecutorService connectionHandlers;
+
+    public SubmissionServer(int port, int maxConnections, TournamentService tournament) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.tournament = tournament;
+        this.connectionSlots = new Semaphore(maxConnections);
+        AtomicInteger handlerNumber = new AtomicInteger();
+        this.connectionHandlers = Executors.newFixedThreadPool(maxConnections, r -> {
+            Thread thread = new Thread(r, "submission-handler-" + handlerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accept connections until the server is closed
+     */
+    public void run() throws IOException, InterruptedException {
+        while (!serverSocket.isClosed()) {
+            // Only accept when a handler is free, so the handler pool never needs to queue connections
+            connectionSlots.acquire();
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                connectionSlots.release();
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            connectionHandlers.execute(() -> {
+                try {
+                    handle(socket);
+                } finally {
+                    connectionSlots.release();
+                }
+            });
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    int comma = line.indexOf(',');
+                    if (comma < 0) {
+                        throw new IllegalArgumentException("Expected name,weights");
+                    }
+                    String baseName = line.substring(0, comma).trim();
+                    if (baseName.isEmpty()) {
+                        throw new IllegalArgumentException("Missing name");
+                    }
+                    NeuralStrategy strategy = new NeuralStrategy(NeuralStrategy.DEFAULT_INPUT_NODES, NeuralStrategy.DEFAULT_HIDDEN_NODES);
+                    strategy.readCSV(line.substring(comma + 1));
+                    String name = baseName + "#" + submissionNumber.incrementAndGet();
+                    tournament.submit(name, new SimpleAgent<>(name, strategy.getHistoryLength(), strategy));
+                    writer.println("OK " + name);
+                } catch (IllegalArgumentException e) {
+                    writer.println("ERROR " + e.getMessage());
+                } catch (IllegalStateException e) {
+                    // The tournament has closed, so nothing more from this client can be accepted
+                    writer.println("ERROR " + e.getMessage());
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Submission connection failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        // Interrupt handlers waiting to submit so they release their connections
+        connectionHandlers.shutdownNow();
+    }
+}
@@ -0,0 +1,375 @@
+package com.spears.prisoner.tournament;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.spears.prisoner.Agent;
+import com.spears.prisoner.Game;
+import com.spears.prisoner.Match;
+
+/**
+ * Runs a continuous tournament. Each submitted agent plays both sides of a match against every agent already in the
+ * pool, then joins the pool, and the listener is sent the updated leaderboard.
+ * <p>
+ * Submissions wait in a bounded queue. When the queue is full {@link #submit(String, Agent)} blocks until there is
+ * space or the tournament is closed, so producers can only submit as fast as the workers play the games.
+ * <p>
+ * An agent whose game throws, including an {@link Error}, is disqualified: it is removed from the pool and the failure is reported on
+ * {@link System#err}. The agent it was playing keeps its place.
+ * <p>
+ * Several workers may play the same pool agent at the same time. This means {@link Agent#getScore()} is not reliable
+ * here, so the leaderboard uses its own tally of the per-game scores.
+ */
+public class TournamentService implements AutoCloseable {
+    private final int rounds;
+    private final BlockingQueue<Entry> submissions;
+    private final List<Entry> pool = new CopyOnWriteArrayList<>();
+    private final ExecutorService workers;
+    private final ExecutorService publisher;
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+    private final Consumer<List<Standing>> leaderboardListener;
+    private volatile boolean running = true;
+
+    /**
+     * @param workerCount         number of submissions evaluated concurrently
+     * @param queueCapacity       number of submissions that may wait before {@link #submit(String, Agent)} blocks
+     * @param rounds              rounds per game
+     * @param leaderboardListener receives the full leaderboard, best first, after submissions join the pool. It is
+     *                            called on its own thread, so a slow listener does not hold up the workers, and updates
+     *                            that arrive while it is busy are merged into the next call.
+     */
+    public TournamentService(int workerCount, int queueCapacity, int rounds, Consumer<List<Standing>> leaderboardListener) {
+        this.rounds = rounds;
+        this.submissions = new ArrayBlockingQueue<>(queueCapacity);
+        this.leaderboardListener = leaderboardListener;
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "tournament-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publisher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "tournament-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Queue an agent for evaluation, waiting for space if the queue is full
+     * @throws IllegalStateException if the tournament is closed before the agent is queued
+     */
+    public void submit(String name, Agent agent) throws InterruptedException {
+        Entry entry = new Entry(name, agent);
+        // Wait in short steps so that a producer blocked on a full queue notices when the tournament is closed
+        while (running) {
+            if (submissions.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+                checkAccepted(entry);
+                return;
+            }
+        }
+        throw new IllegalStateException("Tournament has been closed");
+    }
+
+    /**
+     * Queue an agent for evaluation without waiting
+     * @return false if the queue is full and the agent was not accepted
+     */
+    public boolean offer(String name, Agent agent) {
+        if (!running) {
+            throw new IllegalStateException("Tournament has been closed");
+        }
+        Entry entry = new Entry(name, agent);
+        if (!submissions.offer(entry)) {
+            return false;
+        }
+        checkAccepted(entry);
+        return true;
+    }
+
+    /**
+     * The tournament may have been closed while the entry was being queued. If the entry is still waiting, or
+     * {@link #shutdown()} has drained it, it will never be played, so report the close. Otherwise a worker took it and
+     * it will be played.
+     */
+    private void checkAccepted(Entry entry) {
+        if (!running) {
+            synchronized (submissions) {
+                if (submissions.remove(entry) || entry.unplayed) {
+                    throw new IllegalStateException("Tournament has been closed");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the current leaderboard, best average score first. Agents that have not yet played a game, such as the
+     * first submission, are left out until they have an average.
+     */
+    public List<Standing> getLeaderboard() {
+        List<Standing> standings = new ArrayList<>(pool.size());
+        for (Entry entry : pool) {
+            int games = entry.games.get();
+            if (!entry.ranked || games == 0) {
+                continue;
+            }
+            standings.add(new Standing(entry.name, games, entry.totalScore.get()));
+        }
+        Collections.sort(standings);
+        return standings;
+    }
+
+    private void work() {
+        while (running) {
+            Entry entry;
+            try {
+                entry = submissions.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (entry == null) {
+                continue;
+            }
+            try {
+                evaluate(entry);
+            } catch (Throwable e) {
+                // Keep the worker alive whatever goes wrong with a single submission
+                disqualify(entry, e);
+            }
+        }
+    }
+
+    private void evaluate(Entry entry) {
+        // Take the snapshot and join the pool together, so that of two submissions being evaluated at the same
+        // time exactly one sees the other as an opponent
+        List<Entry> opponents;
+        synchronized (pool) {
+            opponents = new ArrayList<>(pool);
+            pool.add(entry);
+        }
+        for (Entry opponent : opponents) {
+            if (!pool.contains(opponent)) {
+                // disqualified since the snapshot was taken
+                continue;
+            }
+            try {
+                play(entry, opponent);
+                play(opponent, entry);
+            } catch (AgentFailedException e) {
+                disqualify(e.entry, e.getCause());
+                if (e.entry == entry) {
+                    return;
+                }
+            }
+        }
+        entry.ranked = true;
+        publish();
+    }
+
+    private void disqualify(Entry entry, Throwable cause) {
+        pool.remove(entry);
+        System.err.println("Disqualified " + entry.name + ": " + cause);
+    }
+
+    private void publish() {
+        // Only one publish waits at a time; it reads the leaderboard when it runs, so it covers every update before it
+        if (leaderboardListener != null && publishPending.compareAndSet(false, true)) {
+            publisher.execute(() -> {
+                publishPending.set(false);
+                try {
+                    leaderboardListener.accept(getLeaderboard());
+                } catch (RuntimeException e) {
+                    System.err.println("Leaderboard listener failed: " + e);
+                }
+            });
+        }
+    }
+
+    private void play(Entry entry1, Entry entry2) {
+        Game game1 = new GuardedGame(entry1);
+        Game game2 = new GuardedGame(entry2);
+        Match.play(game1, game2, rounds, false);
+        entry1.record(game1.getGameScore());
+        entry2.record(game2.getGameScore());
+    }
+
+    /**
+     * Stop accepting submissions and stop the workers. Submissions already being played are finished first.
+     * @return the names of queued submissions that will never be played
+     */
+    public List<String> shutdown() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.err.println("Tournament workers still running after a minute, interrupting them");
+            workers.shutdownNow();
+        }
+        publisher.shutdown();
+        if (!publisher.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.err.println("Leaderboard listener still running after a minute, interrupting it");
+            publisher.shutdownNow();
+        }
+        List<Entry> unplayed = new ArrayList<>();
+        synchronized (submissions) {
+            submissions.drainTo(unplayed);
+            for (Entry entry : unplayed) {
+                entry.unplayed = true;
+            }
+        }
+        List<String> names = new ArrayList<>(unplayed.size());
+        for (Entry entry : unplayed) {
+            names.add(entry.name);
+        }
+        return names;
+    }
+
+    /**
+     * {@link #shutdown()} the tournament, reporting any queued submissions that will not be played on
+     * {@link System#err}
+     */
+    @Override
+    public void close() throws InterruptedException {
+        List<String> unplayed = shutdown();
+        if (!unplayed.isEmpty()) {
+            System.err.println("Tournament closed before playing " + unplayed.size() + " queued submissions: " + unplayed);
+        }
+    }
+
+    /**
+     * Thrown when an agent's game fails, to record which of the two players was at fault
+     */
+    private static class AgentFailedException extends RuntimeException {
+        private final Entry entry;
+
+        AgentFailedException(Entry entry, Throwable cause) {
+            super(cause);
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Wraps a game so that anything it throws is blamed on its agent. Errors are caught too, because a strategy that
+     * recurses too deeply would otherwise take the worker down with it.
+     */
+    private static class GuardedGame implements Game {
+        private final Entry entry;
+        private final Game game;
+
+        GuardedGame(Entry entry) {
+            this.entry = entry;
+            try {
+                this.game = entry.agent.newGame();
+            } catch (Throwable e) {
+                throw new AgentFailedException(entry, e);
+            }
+        }
+
+        @Override
+        public boolean play(boolean opponentLastPlay) {
+            try {
+                return game.play(opponentLastPlay);
+            } catch (Throwable e) {
+                throw new AgentFailedException(entry, e);
+            }
+        }
+
+        @Override
+        public void acceptPayment(int points) {
+            try {
+                game.acceptPayment(points);
+            } catch (Throwable e) {
+                throw new AgentFailedException(entry, e);
+            }
+        }
+
+        @Override
+        public int getGameScore() {
+            try {
+                return game.getGameScore();
+            } catch (Throwable e) {
+                throw new AgentFailedException(entry, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return game.toString();
+        }
+    }
+
+    private static class Entry {
+        private final String name;
+        private final Agent agent;
+        private final AtomicInteger games = new AtomicInteger();
+        private final AtomicLong totalScore = new AtomicLong();
+        /**
+         * Set once the entry has played everyone who was in the pool when it joined
+         */
+        private volatile boolean ranked = false;
+        /**
+         * Set, while holding the submissions lock, when {@link #shutdown()} drains the entry from the queue
+         */
+        private boolean unplayed = false;
+
+        Entry(String name, Agent agent) {
+            this.name = name;
+            this.agent = agent;
+        }
+
+        void record(int gameScore) {
+            totalScore.addAndGet(gameScore);
+            games.incrementAndGet();
+        }
+    }
+
+    public static class Standing implements Comparable<Standing> {
+        private final String name;
+        private final int games;
+        private final long totalScore;
+
+        Standing(String name, int games, long totalScore) {
+            this.name = name;
+            this.games = games;
+            this.totalScore = totalScore;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        /**
+         * @return the mean score per game, so agents that joined later are not penalised for playing fewer games
+         */
+        public double getAverageScore() {
+            return games == 0 ? 0 : (double) totalScore / games;
+        }
+
+        @Override
+        public int compareTo(Standing o) {
+            return Double.compare(o.getAverageScore(), this.getAverageScore());
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + String.format("%.1f", getAverageScore()) + " (" + games + " games)";
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.spears.prisoner.genetic;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+class NeuralStrategyTest {
+    private static String csv(NeuralStrategy strategy) throws IOException {
+        StringWriter writer = new StringWriter();
+        strategy.writeCSV(writer);
+        return writer.toString();
+    }
+
+    @Test
+    void readCSVReversesWriteCSV() throws IOException {
+        NeuralStrategy original = new NeuralStrategy(NeuralStrategy.DEFAULT_INPUT_NODES, NeuralStrategy.DEFAULT_HIDDEN_NODES);
+        original.randomize();
+        String written = csv(original);
+
+        NeuralStrategy copy = new NeuralStrategy(NeuralStrategy.DEFAULT_INPUT_NODES, NeuralStrategy.DEFAULT_HIDDEN_NODES);
+        copy.readCSV(written);
+
+        assertArrayEquals(original.wAndB, copy.wAndB);
+        assertEquals(written, csv(copy));
+        boolean[] history = new boolean[original.getHistoryLength()];
+        for (int state = 0; state < 1 << history.length; state++) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] = (state >> i & 0x01) == 1;
+            }
+            assertEquals(original.test(state, history), copy.test(state, history));
+        }
+    }
+
+    @Test
+    void readCSVRejectsWrongLengthAndKeepsWeights() {
+        NeuralStrategy strategy = new NeuralStrategy(NeuralStrategy.DEFAULT_INPUT_NODES, NeuralStrategy.DEFAULT_HIDDEN_NODES);
+        strategy.randomize();
+        float[] before = strategy.wAndB.clone();
+
+        assertThrows(IllegalArgumentException.class, () -> strategy.readCSV("1,2,3"));
+        StringBuilder badNumber = new StringBuilder("x");
+        for (int i = 1; i < before.length; i++) {
+            badNumber.append(",1");
+        }
+        assertThrows(IllegalArgumentException.class, () -> strategy.readCSV(badNumber.toString()));
+        assertArrayEquals(before, strategy.wAndB);
+    }
+}
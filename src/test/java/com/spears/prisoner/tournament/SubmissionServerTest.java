@@ -0,0 +1,71 @@
+package com.spears.prisoner.tournament;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.spears.prisoner.genetic.NeuralStrategy;
+
+class SubmissionServerTest {
+    private static String weights() throws IOException {
+        NeuralStrategy strategy = new NeuralStrategy(NeuralStrategy.DEFAULT_INPUT_NODES, NeuralStrategy.DEFAULT_HIDDEN_NODES);
+        strategy.randomize();
+        StringWriter writer = new StringWriter();
+        strategy.writeCSV(writer);
+        return writer.toString().trim();
+    }
+
+    @Test
+    void repliesToEachSubmission() throws Exception {
+        TournamentService tournament = new TournamentService(1, 4, 10, null);
+        SubmissionServer server = new SubmissionServer(0, 2, tournament);
+        Thread acceptor = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            writer.println("alpha," + weights());
+            assertEquals("OK alpha#1", reader.readLine());
+
+            writer.println("no weights");
+            assertEquals("ERROR Expected name,weights", reader.readLine());
+
+            writer.println("short,1,2,3");
+            assertEquals("ERROR Expected 37 weights and biases but found 3", reader.readLine());
+
+            writer.println("   ," + weights());
+            assertEquals("ERROR Missing name", reader.readLine());
+
+            // Rejected lines do not use up submission numbers
+            writer.println("beta," + weights());
+            assertEquals("OK beta#2", reader.readLine());
+
+            tournament.close();
+            writer.println("gamma," + weights());
+            assertEquals("ERROR Tournament has been closed", reader.readLine());
+            // and the server hangs up
+            assertNull(reader.readLine());
+        } finally {
+            server.close();
+            tournament.close();
+        }
+    }
+}
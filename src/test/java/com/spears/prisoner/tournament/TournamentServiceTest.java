@@ -0,0 +1,261 @@
+package com.spears.prisoner.tournament;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.spears.prisoner.Agent;
+import com.spears.prisoner.simple.SimpleAgent;
+
+class TournamentServiceTest {
+    private static final BiPredicate<Integer, boolean[]> titForTat = (turn, history) -> history[0];
+    private static final BiPredicate<Integer, boolean[]> alwaysDefect = (turn, history) -> false;
+    private static final BiPredicate<Integer, boolean[]> alwaysCooperate = (turn, history) -> true;
+
+    private static Agent agent(String name, BiPredicate<Integer, boolean[]> strategy) {
+        return new SimpleAgent<>(name, 1, strategy);
+    }
+
+    private static List<String> names(List<TournamentService.Standing> leaderboard) {
+        List<String> names = new ArrayList<>();
+        for (TournamentService.Standing standing : leaderboard) {
+            names.add(standing.getName());
+        }
+        return names;
+    }
+
+    @Test
+    void offerReturnsFalseWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BiPredicate<Integer, boolean[]> stalled = (turn, history) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+
+        TournamentService tournament = new TournamentService(1, 1, 10, null);
+        try {
+            tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+            tournament.submit("Stalled", agent("Stalled", stalled));
+            // The only worker is now stuck playing the stalled agent, so nothing drains the queue
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(tournament.offer("Queued", agent("Queued", alwaysCooperate)));
+            assertFalse(tournament.offer("Rejected", agent("Rejected", alwaysCooperate)));
+        } finally {
+            release.countDown();
+            tournament.close();
+        }
+    }
+
+    @Test
+    void shutdownListsQueuedSubmissionsThatWereNotPlayed() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BiPredicate<Integer, boolean[]> stalled = (turn, history) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+
+        TournamentService tournament = new TournamentService(1, 1, 10, null);
+        tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+        tournament.submit("Stalled", agent("Stalled", stalled));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(tournament.offer("Queued", agent("Queued", alwaysCooperate)));
+
+        CompletableFuture<List<String>> unplayed = CompletableFuture.supplyAsync(() -> {
+            try {
+                return tournament.shutdown();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Wait until the shutdown has begun, then let the worker finish the game it is stuck in
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                tournament.offer("Probe", agent("Probe", alwaysCooperate));
+                Thread.sleep(10);
+            } catch (IllegalStateException e) {
+                break;
+            }
+        }
+        release.countDown();
+        assertEquals(List.of("Queued"), unplayed.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void leaderboardIsOrderedByAverageScore() throws InterruptedException {
+        CountDownLatch ranked = new CountDownLatch(1);
+        TournamentService tournament = new TournamentService(1, 4, 10, leaderboard -> {
+            if (leaderboard.size() == 3) {
+                ranked.countDown();
+            }
+        });
+        try {
+            tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+            tournament.submit("Tit for tat", agent("Tit for tat", titForTat));
+            tournament.submit("Defect", agent("Defect", alwaysDefect));
+            assertTrue(ranked.await(5, TimeUnit.SECONDS));
+
+            List<TournamentService.Standing> leaderboard = tournament.getLeaderboard();
+            assertEquals(3, leaderboard.size());
+            // Defect takes 50 from Cooperate and 5 from Tit for tat in each of its four games
+            assertEquals("Defect", leaderboard.get(0).getName());
+            assertEquals(27.5, leaderboard.get(0).getAverageScore(), 0.001);
+            for (int i = 0; i < leaderboard.size(); i++) {
+                assertEquals(4, leaderboard.get(i).getGames());
+                if (i > 0) {
+                    assertTrue(leaderboard.get(i - 1).getAverageScore() >= leaderboard.get(i).getAverageScore());
+                }
+            }
+        } finally {
+            tournament.close();
+        }
+    }
+
+    @Test
+    void agentIsNotListedUntilItHasPlayed() throws InterruptedException {
+        List<List<TournamentService.Standing>> published = new CopyOnWriteArrayList<>();
+        TournamentService tournament = new TournamentService(1, 4, 10, published::add);
+        try {
+            tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (published.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            // The first submission has nobody to play yet
+            assertFalse(published.isEmpty());
+            assertTrue(tournament.getLeaderboard().isEmpty());
+
+            tournament.submit("Defect", agent("Defect", alwaysDefect));
+            while (tournament.getLeaderboard().size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of("Defect", "Cooperate"), names(tournament.getLeaderboard()));
+        } finally {
+            tournament.close();
+        }
+    }
+
+    @Test
+    void throwingAgentIsDisqualifiedAndWorkersSurvive() throws InterruptedException {
+        BiPredicate<Integer, boolean[]> broken = (turn, history) -> {
+            throw new IllegalStateException("boom");
+        };
+        List<String> expected = List.of("Cooperate", "Defect", "Tit for tat", "Late");
+        CountDownLatch settled = new CountDownLatch(1);
+        TournamentService tournament = new TournamentService(2, 4, 10, leaderboard -> {
+            if (names(leaderboard).containsAll(expected) && leaderboard.size() == expected.size()) {
+                settled.countDown();
+            }
+        });
+        try {
+            tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+            tournament.submit("Broken", agent("Broken", broken));
+            tournament.submit("Defect", agent("Defect", alwaysDefect));
+            tournament.submit("Tit for tat", agent("Tit for tat", titForTat));
+            tournament.submit("Late", agent("Late", alwaysCooperate));
+            assertTrue(settled.await(5, TimeUnit.SECONDS));
+            assertFalse(names(tournament.getLeaderboard()).contains("Broken"));
+        } finally {
+            tournament.close();
+        }
+    }
+
+    @Test
+    void agentThrowingErrorIsDisqualifiedAndWorkerSurvives() throws InterruptedException {
+        BiPredicate<Integer, boolean[]> overflowing = (turn, history) -> {
+            throw new StackOverflowError();
+        };
+        List<String> expected = List.of("Cooperate", "Defect", "Late");
+        CountDownLatch settled = new CountDownLatch(1);
+        // A single worker, so the tournament stalls if the error escapes it
+        TournamentService tournament = new TournamentService(1, 4, 10, leaderboard -> {
+            if (names(leaderboard).containsAll(expected) && leaderboard.size() == expected.size()) {
+                settled.countDown();
+            }
+        });
+        try {
+            tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+            tournament.submit("Overflowing", agent("Overflowing", overflowing));
+            tournament.submit("Defect", agent("Defect", alwaysDefect));
+            tournament.submit("Late", agent("Late", alwaysCooperate));
+            assertTrue(settled.await(5, TimeUnit.SECONDS));
+            assertFalse(names(tournament.getLeaderboard()).contains("Overflowing"));
+        } finally {
+            tournament.close();
+        }
+    }
+
+    @Test
+    void closedTournamentRejectsSubmissions() throws InterruptedException {
+        TournamentService tournament = new TournamentService(1, 1, 10, null);
+        tournament.close();
+        assertThrows(IllegalStateException.class, () -> tournament.submit("Late", agent("Late", alwaysCooperate)));
+        assertThrows(IllegalStateException.class, () -> tournament.offer("Late", agent("Late", alwaysCooperate)));
+    }
+
+    @Test
+    void slowListenerDoesNotHoldUpWorkers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TournamentService tournament = new TournamentService(1, 4, 10, leaderboard -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+            tournament.submit("Tit for tat", agent("Tit for tat", titForTat));
+            tournament.submit("Defect", agent("Defect", alwaysDefect));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (tournament.getLeaderboard().size() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, tournament.getLeaderboard().size());
+        } finally {
+            release.countDown();
+            tournament.close();
+        }
+    }
+
+    @Test
+    void listenerFailureDoesNotStopTheTournament() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        TournamentService tournament = new TournamentService(1, 4, 10, leaderboard -> {
+            (leaderboard.size() < 2 ? first : second).countDown();
+            throw new IllegalStateException("listener boom");
+        });
+        try {
+            tournament.submit("Cooperate", agent("Cooperate", alwaysCooperate));
+            assertTrue(first.await(5, TimeUnit.SECONDS));
+            tournament.submit("Defect", agent("Defect", alwaysDefect));
+            assertTrue(second.await(5, TimeUnit.SECONDS));
+        } finally {
+            tournament.close();
+        }
+    }
+}